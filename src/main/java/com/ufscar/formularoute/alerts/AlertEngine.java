@@ -0,0 +1,93 @@
+package com.ufscar.formularoute.alerts;
+
+import com.ufscar.formularoute.dto.AlertEvent;
+import com.ufscar.formularoute.dto.AlertRule;
+import com.ufscar.formularoute.repository.AlertRuleRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/*
+Motor de regras de alerta avaliado no caminho de ingestão da telemetria.
+
+As regras são salvas no banco (`AlertRuleRepository`) e carregadas ao iniciar. A avaliação fica no
+`AlertRuleEvaluator`, que mantém as regras indexadas por canal, de modo que cada frame recebido só percorre as
+regras dos seus próprios canais; o índice é reconstruído apenas quando uma regra é adicionada ou removida.
+Regras STALE são verificadas por uma varredura periódica, já que por definição não chegam amostras para
+dispará-las. Os alertas disparados são publicados em `/responses/alerts`.
+*/
+
+@Service
+public class AlertEngine {
+
+    private static final String DESTINATION = "/responses/alerts";
+    private static final long STALE_CHECK_INTERVAL_MS = 250;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private AlertRuleRepository alertRuleRepository;
+
+    private final AlertRuleEvaluator evaluator = new AlertRuleEvaluator();
+
+    @PostConstruct
+    public synchronized void loadRules() {
+        evaluator.setRules(alertRuleRepository.findAll());
+        System.out.println(evaluator.getRules().size() + " regras de alerta carregadas.");
+    }
+
+    public synchronized AlertRule addRule(AlertRule rule) {
+        rule.setId(null);
+        AlertRule saved = alertRuleRepository.save(rule);
+        evaluator.setRules(alertRuleRepository.findAll());
+        return saved;
+    }
+
+    public synchronized boolean removeRule(UUID id) {
+        if (!alertRuleRepository.existsById(id)) {
+            return false;
+        }
+        alertRuleRepository.deleteById(id);
+        evaluator.setRules(alertRuleRepository.findAll());
+        return true;
+    }
+
+    public List<AlertRule> getRules() {
+        return evaluator.getRules();
+    }
+
+    /**
+     * Avalia um frame de telemetria contra as regras dos canais presentes nele.
+     *
+     * @param lapName    Nome da volta (identifica o carro/sessão) que enviou o frame.
+     * @param parameters Mapa canal -> valor recebido no frame.
+     * @param timestamp  Instante de recebimento do frame, em milissegundos (epoch).
+     */
+    public void evaluate(String lapName, Map<String, String> parameters, long timestamp) {
+        for (AlertEvent event : evaluator.evaluate(lapName, parameters, timestamp)) {
+            publish(event);
+        }
+    }
+
+    @Scheduled(fixedRate = STALE_CHECK_INTERVAL_MS)
+    public void checkStaleChannels() {
+        for (AlertEvent event : evaluator.checkStale(System.currentTimeMillis())) {
+            publish(event);
+        }
+    }
+
+    private void publish(AlertEvent event) {
+        try {
+            messagingTemplate.convertAndSend(DESTINATION, event);
+        } catch (Exception e) {
+            System.err.println("Falha ao publicar alerta da regra " + event.getRuleId() + ": " + e.getMessage());
+        }
+    }
+}
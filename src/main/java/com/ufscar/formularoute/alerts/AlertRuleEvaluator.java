@@ -0,0 +1,272 @@
+package com.ufscar.formularoute.alerts;
+
+import com.ufscar.formularoute.dto.AlertEvent;
+import com.ufscar.formularoute.dto.AlertRule;
+import com.ufscar.formularoute.util.TelemetryValues;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/*
+Avaliação das regras de alerta, sem dependência do Spring: recebe os frames e o instante atual e devolve os
+alertas que devem ser publicados. O `AlertEngine` cuida de salvar as regras e de publicar os alertas.
+
+As regras ficam em um índice imutável (`RuleIndex`): cada regra ocupa uma posição (slot) e cada canal (`key`)
+aponta para os slots das suas regras. O estado de cada regra é mantido por volta (`lapName`), em um array
+indexado pelo slot, e é levado para os novos slots quando o índice é trocado.
+
+Uma regra STALE só dispara quando o canal fica em silêncio enquanto o resto da volta continua chegando, ou seja,
+quando a volta recebeu algum frame dentro de `timeoutMs`. Uma volta que parou de receber frames (o carro passou
+para a volta seguinte ou parou de transmitir) não gera alertas STALE, e o seu estado é descartado assim que uma
+volta mais nova estiver ativa.
+*/
+
+class AlertRuleEvaluator {
+
+    // Sem frames há esse tempo, a volta é considerada encerrada se outra volta começou depois dela
+    static final long LAP_ENDED_MS = 30 * 1000;
+    // Sem frames há esse tempo, o estado da volta é descartado de qualquer forma
+    static final long IDLE_LAP_MS = 10 * 60 * 1000;
+
+    private volatile RuleIndex index = RuleIndex.EMPTY;
+    private final Map<String, LapState> laps = new ConcurrentHashMap<>();
+
+    void setRules(List<AlertRule> rules) {
+        index = new RuleIndex(rules);
+    }
+
+    List<AlertRule> getRules() {
+        return List.of(index.rules);
+    }
+
+    boolean hasLap(String lapName) {
+        return laps.containsKey(lapName);
+    }
+
+    /**
+     * Avalia um frame de telemetria contra as regras dos canais presentes nele.
+     *
+     * @param timestamp Instante de recebimento do frame, em milissegundos (epoch).
+     * @return Alertas disparados pelo frame (normalmente uma lista vazia).
+     */
+    List<AlertEvent> evaluate(String lapName, Map<String, String> parameters, long timestamp) {
+        RuleIndex current = index;
+        if (current.rules.length == 0) {
+            return List.of();
+        }
+
+        LapState lap = laps.get(lapName);
+        if (lap == null) {
+            lap = laps.computeIfAbsent(lapName, name -> new LapState(timestamp));
+        }
+        lap.lastSeen = timestamp;
+
+        List<AlertEvent> events = null;
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            int[] slots = current.slotsByKey.get(entry.getKey());
+            if (slots == null) {
+                continue;
+            }
+            double value = TelemetryValues.parse(entry.getValue());
+            for (int slot : slots) {
+                AlertRule rule = current.rules[slot];
+                RuleState state = lap.state(current, slot, timestamp);
+                Double fired;
+                synchronized (state) {
+                    fired = check(rule, state, value, timestamp);
+                }
+                if (fired != null) {
+                    if (events == null) {
+                        events = new ArrayList<>();
+                    }
+                    events.add(event(rule, lapName, fired, timestamp));
+                }
+            }
+        }
+        return events != null ? events : List.of();
+    }
+
+    /**
+     * Atualiza o estado da regra com a nova amostra e retorna o valor a ser reportado se ela deve disparar
+     * (o próprio valor, ou a taxa de variação por segundo para RATE_OF_CHANGE), ou null caso contrário.
+     * Uma amostra não numérica interrompe a contagem do `holdMs`.
+     */
+    private static Double check(AlertRule rule, RuleState state, double value, long timestamp) {
+        boolean hadSample = state.hasSample;
+        long previousSample = state.lastSample;
+        double previousValue = state.lastValue;
+        state.hasSample = true;
+        state.lastSample = timestamp;
+        state.lastValue = value;
+
+        if (rule.getType() == AlertRule.Type.STALE) {
+            state.stale = false;
+            return null;
+        }
+
+        double observed = value;
+        boolean condition;
+        if (Double.isNaN(value)) {
+            condition = false;
+        } else {
+            switch (rule.getType()) {
+                case ABOVE -> condition = value > rule.getThreshold();
+                case BELOW -> condition = value < rule.getThreshold();
+                case RATE_OF_CHANGE -> {
+                    if (hadSample && !Double.isNaN(previousValue) && timestamp > previousSample) {
+                        observed = Math.abs(value - previousValue) * 1000.0 / (timestamp - previousSample);
+                        condition = observed > rule.getThreshold();
+                    } else {
+                        condition = false;
+                    }
+                }
+                default -> condition = false;
+            }
+        }
+
+        if (!condition) {
+            state.conditionSince = -1;
+            return null;
+        }
+        if (state.conditionSince < 0) {
+            state.conditionSince = timestamp;
+        }
+        if (timestamp - state.conditionSince < rule.getHoldMs() || !state.debounced(rule, timestamp)) {
+            return null;
+        }
+        state.lastFired = timestamp;
+        return observed;
+    }
+
+    /**
+     * Verifica as regras STALE de todas as voltas ativas e descarta o estado das voltas encerradas.
+     *
+     * @param now Instante atual, em milissegundos (epoch).
+     */
+    List<AlertEvent> checkStale(long now) {
+        long newestStart = Long.MIN_VALUE;
+        for (LapState lap : laps.values()) {
+            newestStart = Math.max(newestStart, lap.firstSeen);
+        }
+        long newest = newestStart;
+        laps.values().removeIf(lap -> now - lap.lastSeen > IDLE_LAP_MS
+                || (now - lap.lastSeen > LAP_ENDED_MS && lap.lastSeen < newest));
+
+        RuleIndex current = index;
+        if (current.staleSlots.length == 0) {
+            return List.of();
+        }
+        List<AlertEvent> events = new ArrayList<>();
+        for (Map.Entry<String, LapState> entry : laps.entrySet()) {
+            LapState lap = entry.getValue();
+            for (int slot : current.staleSlots) {
+                AlertRule rule = current.rules[slot];
+                // Regra nova ou volta vista agora pela primeira vez: o prazo conta a partir de agora
+                RuleState state = lap.state(current, slot, now);
+                if (now - lap.lastSeen > rule.getTimeoutMs()) {
+                    // A volta inteira parou de receber frames, não só este canal
+                    continue;
+                }
+                synchronized (state) {
+                    if (!state.stale && now - state.lastSample > rule.getTimeoutMs() && state.debounced(rule, now)) {
+                        state.stale = true;
+                        state.lastFired = now;
+                        events.add(event(rule, entry.getKey(), state.hasSample ? state.lastValue : null, now));
+                    }
+                }
+            }
+        }
+        return events;
+    }
+
+    private static AlertEvent event(AlertRule rule, String lapName, Double value, long timestamp) {
+        return new AlertEvent(rule.getId(), rule.getName(), rule.getType(), lapName, rule.getKey(),
+                value != null && Double.isNaN(value) ? null : value, rule.getThreshold(),
+                ZonedDateTime.ofInstant(Instant.ofEpochMilli(timestamp), TelemetryValues.ZONE));
+    }
+
+    private static final class RuleIndex {
+        private static final RuleIndex EMPTY = new RuleIndex(List.of());
+
+        private final AlertRule[] rules;
+        private final Map<String, int[]> slotsByKey;
+        private final int[] staleSlots;
+        private final Map<UUID, Integer> slotsById;
+
+        private RuleIndex(List<AlertRule> rules) {
+            this.rules = rules.toArray(new AlertRule[0]);
+            Map<String, List<Integer>> grouped = new HashMap<>();
+            List<Integer> stale = new ArrayList<>();
+            Map<UUID, Integer> ids = new HashMap<>();
+            for (int slot = 0; slot < this.rules.length; slot++) {
+                AlertRule rule = this.rules[slot];
+                grouped.computeIfAbsent(rule.getKey(), k -> new ArrayList<>()).add(slot);
+                if (rule.getType() == AlertRule.Type.STALE) {
+                    stale.add(slot);
+                }
+                ids.put(rule.getId(), slot);
+            }
+            Map<String, int[]> byKey = new HashMap<>();
+            grouped.forEach((key, slots) -> byKey.put(key, slots.stream().mapToInt(Integer::intValue).toArray()));
+            this.slotsByKey = Map.copyOf(byKey);
+            this.staleSlots = stale.stream().mapToInt(Integer::intValue).toArray();
+            this.slotsById = Map.copyOf(ids);
+        }
+    }
+
+    private static final class LapState {
+        private final long firstSeen;
+        private volatile long lastSeen;
+        private RuleIndex index = RuleIndex.EMPTY;
+        private RuleState[] states = new RuleState[0];
+
+        private LapState(long firstSeen) {
+            this.firstSeen = firstSeen;
+            this.lastSeen = firstSeen;
+        }
+
+        private synchronized RuleState state(RuleIndex current, int slot, long since) {
+            if (index != current) {
+                // O índice mudou: leva o estado das regras que continuam existindo para os novos slots
+                RuleState[] remapped = new RuleState[current.rules.length];
+                for (int i = 0; i < index.rules.length; i++) {
+                    Integer newSlot = current.slotsById.get(index.rules[i].getId());
+                    if (newSlot != null) {
+                        remapped[newSlot] = states[i];
+                    }
+                }
+                index = current;
+                states = remapped;
+            }
+            RuleState state = states[slot];
+            if (state == null) {
+                state = new RuleState(since);
+                states[slot] = state;
+            }
+            return state;
+        }
+    }
+
+    private static final class RuleState {
+        private boolean hasSample;
+        private long lastSample;
+        private double lastValue = Double.NaN;
+        private long conditionSince = -1;
+        private long lastFired = -1;
+        private boolean stale;
+
+        private RuleState(long since) {
+            this.lastSample = since;
+        }
+
+        private boolean debounced(AlertRule rule, long timestamp) {
+            return lastFired < 0 || timestamp - lastFired >= rule.getDebounceMs();
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.ufscar.formularoute.archive;
+
+import com.ufscar.formularoute.dto.Lap;
+import com.ufscar.formularoute.dto.Parameter;
+import com.ufscar.formularoute.util.TelemetryValues;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/*
+Lê um arquivo `.frl` gravado pelo `LapArchiveWriter` através de um mapeamento em memória (mmap).
+Ao abrir, apenas o cabeçalho, o trailer e o rodapé são lidos; arquivos de outra versão do formato são recusados.
+Os blocos de cada canal só são descompactados quando consultados.
+*/
+
+public final class LapArchiveReader {
+
+    // Magic + versão + nome (UTF, até 65535 bytes + 2 de tamanho) + `added`
+    private static final int MAX_HEADER_SIZE = Integer.BYTES + Short.BYTES + 2 + 65_535 + Long.BYTES;
+
+    private final MappedByteBuffer buffer;
+    private final Map<String, LapArchiveWriter.BlockInfo> index = new LinkedHashMap<>();
+    private String lapName;
+    private ZonedDateTime lapAdded;
+
+    private LapArchiveReader(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        readIndex();
+    }
+
+    public static LapArchiveReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois que o canal é fechado
+            return new LapArchiveReader(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    private void readIndex() throws IOException {
+        int size = buffer.capacity();
+        if (size < Integer.BYTES + LapArchiveWriter.TRAILER_SIZE
+                || buffer.getInt(0) != LapArchiveWriter.MAGIC
+                || buffer.getInt(size - Integer.BYTES) != LapArchiveWriter.MAGIC) {
+            throw new IOException("Arquivo de volta arquivada inválido.");
+        }
+        long footerOffset = buffer.getLong(size - LapArchiveWriter.TRAILER_SIZE);
+        if (footerOffset < 0 || footerOffset > size - LapArchiveWriter.TRAILER_SIZE) {
+            throw new IOException("Rodapé do arquivo de volta arquivada inválido.");
+        }
+
+        DataInputStream header = new DataInputStream(new ByteArrayInputStream(
+                bytes(0, (int) Math.min(footerOffset, MAX_HEADER_SIZE))));
+        header.readInt();
+        short version = header.readShort();
+        if (version != LapArchiveWriter.VERSION) {
+            throw new IOException("Versão " + version + " do arquivo de volta arquivada não suportada.");
+        }
+        lapName = header.readUTF();
+        lapAdded = TelemetryValues.toTime(header.readLong());
+
+        DataInputStream footer = new DataInputStream(new ByteArrayInputStream(
+                bytes((int) footerOffset, size - LapArchiveWriter.TRAILER_SIZE - (int) footerOffset)));
+        int channels = footer.readInt();
+        for (int i = 0; i < channels; i++) {
+            LapArchiveWriter.BlockInfo block = new LapArchiveWriter.BlockInfo(footer.readUTF(), footer.readInt(),
+                    footer.readLong(), footer.readInt(), footer.readInt());
+            index.put(block.key(), block);
+        }
+    }
+
+    public String getLapName() {
+        return lapName;
+    }
+
+    public ZonedDateTime getLapAdded() {
+        return lapAdded;
+    }
+
+    /**
+     * Quantidade total de amostras do arquivo, somando os blocos de todos os canais.
+     */
+    public int count() {
+        return index.values().stream().mapToInt(LapArchiveWriter.BlockInfo::count).sum();
+    }
+
+    public Set<String> keys() {
+        return Collections.unmodifiableSet(index.keySet());
+    }
+
+    /**
+     * Retorna os parâmetros de um único canal, em ordem cronológica, sem tocar nos blocos dos demais canais.
+     */
+    public List<Parameter> read(Lap lap, String key) throws IOException {
+        LapArchiveWriter.BlockInfo block = index.get(key);
+        if (block == null) {
+            return new ArrayList<>();
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(inflate(block)));
+        int count = in.readInt();
+        long[] micros = new long[count];
+        for (int i = 0; i < count; i++) {
+            long delta = in.readLong();
+            micros[i] = i == 0 ? delta : micros[i - 1] + delta;
+        }
+
+        List<Parameter> parameters = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Parameter parameter = new Parameter();
+            parameter.setKey(key);
+            parameter.setValue(in.readBoolean() ? in.readUTF() : null);
+            parameter.setAdded(TelemetryValues.toTime(micros[i]));
+            parameter.setLap(lap);
+            parameters.add(parameter);
+        }
+        return parameters;
+    }
+
+    /**
+     * Retorna todos os parâmetros da volta, de todos os canais, ordenados por `added`.
+     */
+    public List<Parameter> readAll(Lap lap) throws IOException {
+        List<Parameter> parameters = new ArrayList<>();
+        for (String key : index.keySet()) {
+            parameters.addAll(read(lap, key));
+        }
+        parameters.sort(Comparator.comparing(Parameter::getAdded));
+        return parameters;
+    }
+
+    private byte[] inflate(LapArchiveWriter.BlockInfo block) throws IOException {
+        ByteBuffer compressed = buffer.slice((int) block.offset(), block.compressedLength());
+        byte[] raw = new byte[block.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, read, raw.length - read);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                read += n;
+            }
+            if (read != raw.length) {
+                throw new IOException("Bloco do canal " + block.key() + " corrompido.");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Bloco do canal " + block.key() + " corrompido.", e);
+        } finally {
+            inflater.end();
+        }
+        return raw;
+    }
+
+    private byte[] bytes(int offset, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(offset, bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ufscar.formularoute.archive;
+
+import com.ufscar.formularoute.dto.Lap;
+import com.ufscar.formularoute.dto.Parameter;
+import com.ufscar.formularoute.repository.LapRepository;
+import com.ufscar.formularoute.repository.ParameterRepository;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.UUID;
+
+/*
+Armazenamento frio das voltas antigas.
+
+`archive` exporta todos os parâmetros de uma volta para um arquivo `.frl` (ver `LapArchiveWriter`) no diretório
+`telemetry.archive.dir`, relê o arquivo para conferir que todas as amostras estão nele, remove da tabela `parameter`
+apenas as linhas exportadas e marca a volta como `archived`. A linha da volta continua no banco, então a listagem de
+voltas não muda. Se chegaram parâmetros novos para a volta durante a exportação (nomes de volta são reaproveitados
+pela ingestão), a transação é desfeita e a volta continua no banco até a próxima execução.
+
+O diretório é resolvido para um caminho absoluto ao iniciar; se não puder ser criado ou não aceitar escrita,
+a aplicação não sobe, em vez de descobrir o problema só ao ler uma volta já removida do banco.
+
+Os endpoints de histórico usam `readParameters` para ler voltas arquivadas direto do arquivo, via mmap.
+*/
+
+@Service
+public class LapArchiveService {
+
+    private static final String EXTENSION = ".frl";
+    // Quantidade de ids por comando de delete, abaixo do limite de parâmetros por consulta do Postgres
+    private static final int DELETE_BATCH = 1000;
+
+    @Autowired
+    private LapRepository lapRepository;
+
+    @Autowired
+    private ParameterRepository parameterRepository;
+
+    @Value("${telemetry.archive.dir:${user.home}/formularoute/archive}")
+    private String archiveDir;
+
+    private Path archivePath;
+
+    @PostConstruct
+    public void init() throws IOException {
+        archivePath = Paths.get(archiveDir).toAbsolutePath().normalize();
+        Files.createDirectories(archivePath);
+        if (!Files.isDirectory(archivePath) || !Files.isWritable(archivePath)) {
+            throw new IllegalStateException("Diretório de voltas arquivadas sem permissão de escrita: " + archivePath);
+        }
+        System.out.println("Voltas arquivadas em: " + archivePath);
+    }
+
+    @Transactional
+    public void archive(UUID lapId) throws IOException {
+        Lap lap = lapRepository.findById(lapId).orElse(null);
+        if (lap == null || lap.isArchived()) {
+            return;
+        }
+
+        List<Parameter> parameters = parameterRepository.findAllByLapOrderByAddedAsc(lap);
+        LapArchiveWriter.write(path(lap), lap, parameters);
+
+        // O arquivo passa a ser a única cópia: relê todos os blocos antes de apagar as linhas do banco
+        LapArchiveReader written = open(lap);
+        int archived = written.readAll(lap).size();
+        if (archived != parameters.size() || written.count() != parameters.size()) {
+            throw new IOException("Arquivo da lap " + lap.getName() + " tem " + archived + " de "
+                    + parameters.size() + " parâmetros; linhas mantidas no banco.");
+        }
+
+        // O arquivo já está no disco; se a transação falhar daqui em diante, ele é sobrescrito na próxima execução
+        List<UUID> ids = parameters.stream().map(Parameter::getId).toList();
+        for (int i = 0; i < ids.size(); i += DELETE_BATCH) {
+            parameterRepository.deleteAllByIdIn(ids.subList(i, Math.min(i + DELETE_BATCH, ids.size())));
+        }
+        long remaining = parameterRepository.countByLap(lap);
+        if (remaining > 0) {
+            // Exceção não verificada: desfaz os deletes acima
+            throw new IllegalStateException("Lap " + lap.getName() + " recebeu " + remaining
+                    + " parâmetros durante o arquivamento; arquivamento desfeito.");
+        }
+        lap.setArchived(true);
+        lapRepository.save(lap);
+        System.out.println("Lap " + lap.getName() + " arquivada com " + parameters.size() + " parâmetros.");
+    }
+
+    public LapArchiveReader open(Lap lap) throws IOException {
+        return LapArchiveReader.open(path(lap));
+    }
+
+    public List<Parameter> readParameters(Lap lap) throws IOException {
+        return open(lap).readAll(lap);
+    }
+
+    public List<Parameter> readParameters(Lap lap, String key) throws IOException {
+        return open(lap).read(lap, key);
+    }
+
+    private Path path(Lap lap) {
+        return archivePath.resolve(lap.getId() + EXTENSION);
+    }
+}
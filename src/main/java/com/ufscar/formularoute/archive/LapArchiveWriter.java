@@ -0,0 +1,140 @@
+package com.ufscar.formularoute.archive;
+
+import com.ufscar.formularoute.dto.Lap;
+import com.ufscar.formularoute.dto.Parameter;
+import com.ufscar.formularoute.util.TelemetryValues;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/*
+Grava uma volta em um arquivo colunar compactado (`.frl`), um arquivo por volta.
+
+Layout do arquivo (todos os inteiros em big-endian, strings em UTF modificado do DataOutputStream):
+
+    cabeçalho: int MAGIC, short VERSION, UTF nome da volta, long `added` da volta em microssegundos (epoch)
+    blocos:    um bloco por canal (`key`), compactado com Deflate. Descompactado, o bloco contém:
+               int quantidade de amostras,
+               coluna de tempos: long primeiro tempo e depois as diferenças (long) em microssegundos,
+               coluna de valores: para cada amostra, boolean presente + UTF valor
+    rodapé:    int quantidade de canais e, para cada canal:
+               UTF key, int quantidade de amostras, long offset do bloco, int tamanho compactado, int tamanho original
+    trailer:   long offset do rodapé, int MAGIC
+
+O rodapé funciona como índice: o leitor só precisa descompactar o bloco do canal consultado.
+*/
+
+public final class LapArchiveWriter {
+
+    static final int MAGIC = 0x46524C41; // "FRLA"
+    static final short VERSION = 1;
+    static final int TRAILER_SIZE = Long.BYTES + Integer.BYTES;
+
+    private LapArchiveWriter() {
+    }
+
+    /**
+     * Grava os parâmetros da volta em `target`. O arquivo é escrito em um temporário, sincronizado com o disco
+     * e só então movido para o destino, para que um arquivo pela metade nunca seja lido como válido.
+     *
+     * @param parameters Parâmetros da volta em ordem cronológica.
+     */
+    public static void write(Path target, Lap lap, List<Parameter> parameters) throws IOException {
+        Map<String, List<Parameter>> channels = new LinkedHashMap<>();
+        for (Parameter parameter : parameters) {
+            channels.computeIfAbsent(parameter.getKey(), k -> new ArrayList<>()).add(parameter);
+        }
+
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        long lapAdded = lap.getAdded() != null ? TelemetryValues.toMicros(lap.getAdded()) : 0;
+
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeUTF(lap.getName() != null ? lap.getName() : "");
+            out.writeLong(lapAdded);
+
+            List<BlockInfo> index = new ArrayList<>();
+            Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+            try {
+                for (Map.Entry<String, List<Parameter>> channel : channels.entrySet()) {
+                    byte[] raw = encodeBlock(channel.getValue(), lapAdded);
+                    byte[] compressed = deflate(deflater, raw);
+                    index.add(new BlockInfo(channel.getKey(), channel.getValue().size(), out.size(),
+                            compressed.length, raw.length));
+                    out.write(compressed);
+                }
+            } finally {
+                deflater.end();
+            }
+
+            long footerOffset = out.size();
+            out.writeInt(index.size());
+            for (BlockInfo block : index) {
+                out.writeUTF(block.key());
+                out.writeInt(block.count());
+                out.writeLong(block.offset());
+                out.writeInt(block.compressedLength());
+                out.writeInt(block.rawLength());
+            }
+            out.writeLong(footerOffset);
+            out.writeInt(MAGIC);
+            out.flush();
+            file.getFD().sync();
+        }
+
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encodeBlock(List<Parameter> samples, long fallbackMicros) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(samples.size() * 16);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(samples.size());
+
+        long previous = 0;
+        for (int i = 0; i < samples.size(); i++) {
+            ZonedDateTime added = samples.get(i).getAdded();
+            long micros = added != null ? TelemetryValues.toMicros(added) : fallbackMicros;
+            out.writeLong(i == 0 ? micros : micros - previous);
+            previous = micros;
+        }
+        for (Parameter sample : samples) {
+            out.writeBoolean(sample.getValue() != null);
+            if (sample.getValue() != null) {
+                out.writeUTF(sample.getValue());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static byte[] deflate(Deflater deflater, byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, raw.length / 4));
+        byte[] buffer = new byte[8192];
+        while (!deflater.finished()) {
+            int written = deflater.deflate(buffer);
+            out.write(buffer, 0, written);
+        }
+        return out.toByteArray();
+    }
+
+    record BlockInfo(String key, int count, long offset, int compressedLength, int rawLength) {
+    }
+}
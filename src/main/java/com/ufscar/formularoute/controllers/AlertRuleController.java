@@ -0,0 +1,79 @@
+package com.ufscar.formularoute.controllers;
+
+import com.ufscar.formularoute.alerts.AlertEngine;
+import com.ufscar.formularoute.dto.AlertRule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/alerts")
+public class AlertRuleController {
+
+    @Autowired
+    private AlertEngine alertEngine;
+
+    /**
+     * Endpoint para listar as regras de alerta ativas.
+     * Exemplo de URL: GET /alerts/rules
+     */
+    @GetMapping("/rules")
+    public ResponseEntity<List<AlertRule>> getRules() {
+        return ResponseEntity.ok(alertEngine.getRules());
+    }
+
+    /**
+     * Endpoint para cadastrar uma nova regra de alerta.
+     * <p>
+     * A regra é salva no banco de dados e continua ativa após reinícios do servidor.
+     * Os alertas disparados são publicados no tópico STOMP `/responses/alerts`.
+     * <p>
+     * Exemplo de requisição:
+     * POST /alerts/rules
+     * {
+     * "name": "Pressão do óleo baixa",
+     * "key": "oil_pressure",
+     * "type": "BELOW",
+     * "threshold": 1.5,
+     * "holdMs": 300,
+     * "debounceMs": 5000
+     * }
+     * <p>
+     * Respostas possíveis:
+     * - 201 Created: Corpo da resposta com a regra criada (incluindo o `id` gerado, um UUID).
+     * <p>
+     * - 400 Bad Request: Se `key` ou `type` estiverem ausentes, se algum tempo for negativo ou
+     * se uma regra STALE não informar `timeoutMs`.
+     *
+     * @return ResponseEntity contendo a regra criada ou uma mensagem de erro.
+     */
+    @PostMapping("/rules")
+    public ResponseEntity<?> createRule(@RequestBody AlertRule rule) {
+        if (rule.getKey() == null || rule.getKey().isEmpty() || rule.getType() == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Rule key and type are required.");
+        }
+        if (rule.getHoldMs() < 0 || rule.getTimeoutMs() < 0 || rule.getDebounceMs() < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Rule times must not be negative.");
+        }
+        if (rule.getType() == AlertRule.Type.STALE && rule.getTimeoutMs() == 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("STALE rules require timeoutMs.");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(alertEngine.addRule(rule));
+    }
+
+    /**
+     * Endpoint para remover uma regra de alerta.
+     * Exemplo de URL: DELETE /alerts/rules/0b6f1c1e-5d4a-4a8e-9a57-3c2f7e1d9b10
+     */
+    @DeleteMapping("/rules/{id}")
+    public ResponseEntity<String> deleteRule(@PathVariable UUID id) {
+        if (alertEngine.removeRule(id)) {
+            return ResponseEntity.ok("Rule removed.");
+        }
+        return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Rule not found.");
+    }
+}
@@ -1,11 +1,11 @@
 package com.ufscar.formularoute.controllers;
 
+import com.ufscar.formularoute.archive.LapArchiveService;
 import com.ufscar.formularoute.dto.Lap;
 import com.ufscar.formularoute.repository.LapRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import java.time.ZonedDateTime;
 import java.util.List;
 
@@ -15,17 +15,29 @@ public class DataCleanupService {
     @Autowired
     private LapRepository lapRepository;
 
+    @Autowired
+    private LapArchiveService lapArchiveService;
+
+    /**
+     * Move as voltas com mais de 10 dias para o armazenamento frio em disco, em vez de excluí-las.
+     * Cada volta é arquivada em sua própria transação, então uma falha não impede as demais.
+     */
     @Scheduled(cron = "@weekly")
-    @Transactional
     public void cleanupOldLaps() {
         ZonedDateTime cutoffDate = ZonedDateTime.now().minusDays(10);
 
-        List<Lap> oldLaps = lapRepository.findAllByAddedBefore(cutoffDate);
+        List<Lap> oldLaps = lapRepository.findAllByAddedBeforeAndArchivedFalse(cutoffDate);
 
         if (!oldLaps.isEmpty()) {
-            System.out.println("Encontradas " + oldLaps.size() + " laps antigas para exclusão.");
-            lapRepository.deleteAll(oldLaps);
-            System.out.println("Limpeza de dados antigos concluída.");
+            System.out.println("Encontradas " + oldLaps.size() + " laps antigas para arquivamento.");
+            for (Lap lap : oldLaps) {
+                try {
+                    lapArchiveService.archive(lap.getId());
+                } catch (Exception e) {
+                    System.err.println("Falha ao arquivar a lap " + lap.getName() + ": " + e.getMessage());
+                }
+            }
+            System.out.println("Arquivamento de dados antigos concluído.");
         }
     }
-}
\ No newline at end of file
+}
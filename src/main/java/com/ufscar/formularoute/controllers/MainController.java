@@ -3,12 +3,15 @@ package com.ufscar.formularoute.controllers;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ufscar.formularoute.alerts.AlertEngine;
+import com.ufscar.formularoute.archive.LapArchiveService;
 import com.ufscar.formularoute.dto.Lap;
 import com.ufscar.formularoute.dto.Parameter;
 import com.ufscar.formularoute.dto.ParameterResponse;
 import com.ufscar.formularoute.dto.RegisterParametersRequest;
 import com.ufscar.formularoute.repository.LapRepository;
 import com.ufscar.formularoute.request.LapRequest;
+import com.ufscar.formularoute.track.TrackIndexService;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -20,6 +23,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
@@ -33,6 +37,15 @@ public class MainController {
         @Autowired
     private LapRepository lapRepository;
 
+    @Autowired
+    private AlertEngine alertEngine;
+
+    @Autowired
+    private LapArchiveService lapArchiveService;
+
+    @Autowired
+    private TrackIndexService trackIndexService;
+
     /**
      * Endpoint para registrar parâmetros de telemetria associados a uma volta (Lap) existente.
      * <p>
@@ -77,6 +90,9 @@ public class MainController {
      * - 400 Bad Request: Se o campo `lap-name` estiver ausente no JSON.
      * Corpo da resposta: "Missing lap-name in the request."
      * <p>
+     * - 409 Conflict: Se a volta já foi movida para o armazenamento frio.
+     * Corpo da resposta: "Lap is archived."
+     * <p>
      * - 500 Internal Server Error: Se ocorrer algum erro durante o processamento da solicitação.
      *
      *
@@ -91,12 +107,19 @@ public class MainController {
 
             if (lapOptional.isPresent()) {
                 Lap lap = lapOptional.get();
+                if (lap.isArchived()) {
+                    return ResponseEntity.status(HttpStatus.CONFLICT).body("Lap is archived.");
+                }
+                ZonedDateTime added = ZonedDateTime.now(ZoneId.of("America/Sao_Paulo"));
+                alertEngine.evaluate(lap.getName(), request.getParameters(), added.toInstant().toEpochMilli());
+                trackIndexService.onFrame(lap.getName(), request.getParameters(), added);
 
                 List<Parameter> newParameters = request.getParameters().entrySet().stream()
                         .map(entry -> {
                             Parameter parameter = new Parameter();
                             parameter.setKey(entry.getKey());
                             parameter.setValue(entry.getValue());
+                            parameter.setAdded(added);
                             parameter.setLap(lap);
                             return parameter;
                         })
@@ -158,6 +181,7 @@ public class MainController {
 
             // Salva a nova volta no banco de dados
             Lap savedLap = lapRepository.save(newLap);
+            trackIndexService.startLap(savedLap.getName());
 
             // Retorna a volta criada com um status 201 Created
             System.out.println("Lap criada: " + savedLap.toString());
@@ -217,8 +241,12 @@ public class MainController {
             if (lapOptional.isPresent()) {
                 Lap lap = lapOptional.get();
 
-                // Filtra os parâmetros com a Key fornecida
-                List<Parameter> matchingParameters = new ArrayList<>();
+                // Filtra os parâmetros com a Key fornecida (voltas arquivadas só descompactam o bloco dessa Key)
+                List<Parameter> matchingParameters = lap.isArchived()
+                        ? lapArchiveService.readParameters(lap, key)
+                        : lap.getParameters().stream()
+                                .filter(parameter -> key.equals(parameter.getKey()))
+                                .collect(Collectors.toList());
                 List<ParameterResponse> response = matchingParameters.stream()
                         .map(ParameterResponse::new)
                         .collect(Collectors.toList());
@@ -279,6 +307,7 @@ public class MainController {
 
     /**
      * Endpoint para buscar todos os parâmetros de uma volta específica (Lap).
+     * Voltas arquivadas são lidas do arquivo em disco, com a mesma resposta.
      * Exemplo de URL: GET /main/Volta%201/parameters
      */
     @GetMapping("/{lapName}/parameters")
@@ -287,7 +316,13 @@ public class MainController {
 
         if (lapOptional.isPresent()) {
             Lap lap = lapOptional.get();
-            List<Parameter> parameters = lap.getParameters();
+            List<Parameter> parameters;
+            try {
+                parameters = lap.isArchived() ? lapArchiveService.readParameters(lap) : lap.getParameters();
+            } catch (IOException e) {
+                e.printStackTrace();
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("Could not read archived lap.");
+            }
 
             if (parameters.isEmpty()) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("No parameters found for this lap.");
@@ -299,4 +334,15 @@ public class MainController {
         }
     }
 
+    /**
+     * Endpoint para listar todas as voltas, da mais recente para a mais antiga.
+     * Inclui as voltas arquivadas (`"archived": true`), cujos parâmetros continuam disponíveis nos
+     * endpoints de histórico.
+     * Exemplo de URL: GET /main/laps
+     */
+    @GetMapping("/laps")
+    public ResponseEntity<List<Lap>> getLaps() {
+        return ResponseEntity.ok(lapRepository.findAllByOrderByAddedDesc());
+    }
+
 }
@@ -0,0 +1,98 @@
+package com.ufscar.formularoute.controllers;
+
+import com.ufscar.formularoute.dto.Lap;
+import com.ufscar.formularoute.dto.TrackQueryRequest;
+import com.ufscar.formularoute.dto.TrackQueryResult;
+import com.ufscar.formularoute.repository.LapRepository;
+import com.ufscar.formularoute.track.TrackIndexService;
+import com.ufscar.formularoute.track.TrackRegion;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/track")
+public class TrackController {
+
+    @Autowired
+    private LapRepository lapRepository;
+
+    @Autowired
+    private TrackIndexService trackIndexService;
+
+    /**
+     * Endpoint para consultar um canal de telemetria em um trecho da pista, em várias voltas ao mesmo tempo.
+     * <p>
+     * Exemplo: velocidade mínima na curva 3 em todas as voltas de hoje.
+     * POST /track/query
+     * {
+     * "key": "speed",
+     * "centerLat": -21.9834,
+     * "centerLon": -47.8812,
+     * "radius": 25,
+     * "aggregateOnly": true
+     * }
+     * <p>
+     * Também é possível usar um retângulo (`minLat`, `maxLat`, `minLon`, `maxLon`) ou um trecho em metros desde o
+     * início da volta (`fromDistance`, `toDistance`). As voltas são as listadas em `laps` ou, se ausente, as
+     * registradas a partir de `since` (padrão: início do dia atual).
+     * <p>
+     * Respostas possíveis:
+     * - 200 OK: Lista com um resultado por volta que passou pela região, com os valores do canal e os agregados
+     * `min`, `max` e `avg`. Uma volta que não pôde ser lida (ex.: arquivo da volta arquivada ausente) aparece com
+     * `error` preenchido, e as demais são retornadas normalmente.
+     * <p>
+     * - 400 Bad Request: Se `key` ou a região não forem informados.
+     * <p>
+     * - 500 Internal Server Error: Se ocorrer algum erro durante o processamento da solicitação.
+     *
+     * @return ResponseEntity contendo os resultados por volta ou uma mensagem de erro.
+     */
+    @PostMapping("/query")
+    public ResponseEntity<?> query(@RequestBody TrackQueryRequest request) {
+        if (request.getKey() == null || request.getKey().isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Channel key is required.");
+        }
+
+        try {
+            List<Lap> laps;
+            if (request.getLaps() != null && !request.getLaps().isEmpty()) {
+                laps = lapRepository.findAllByNameIn(request.getLaps());
+            } else {
+                ZoneId zone = ZoneId.of("America/Sao_Paulo");
+                ZonedDateTime since = request.getSince() != null
+                        ? request.getSince()
+                        : LocalDate.now(zone).atStartOfDay(zone);
+                laps = lapRepository.findAllByAddedAfter(since);
+            }
+
+            List<TrackQueryResult> results;
+            if (request.getFromDistance() != null && request.getToDistance() != null) {
+                results = trackIndexService.queryDistance(laps, request.getKey(),
+                        request.getFromDistance(), request.getToDistance(), request.isAggregateOnly());
+            } else if (request.getCenterLat() != null && request.getCenterLon() != null && request.getRadius() != null) {
+                TrackRegion region = TrackRegion.circle(request.getCenterLat(), request.getCenterLon(), request.getRadius());
+                results = trackIndexService.queryRegion(laps, request.getKey(), region, request.isAggregateOnly());
+            } else if (request.getMinLat() != null && request.getMaxLat() != null
+                    && request.getMinLon() != null && request.getMaxLon() != null) {
+                TrackRegion region = TrackRegion.box(request.getMinLat(), request.getMaxLat(),
+                        request.getMinLon(), request.getMaxLon());
+                results = trackIndexService.queryRegion(laps, request.getKey(), region, request.isAggregateOnly());
+            } else {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                        .body("A track region or distance range is required.");
+            }
+
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            e.printStackTrace();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred.");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ufscar.formularoute.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+/*
+Mensagem publicada em `/responses/alerts` quando uma `AlertRule` dispara.
+Para regras STALE, `value` contém o último valor recebido do canal (ou null se nunca houve amostra numérica).
+*/
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertEvent {
+    private UUID ruleId;
+    private String ruleName;
+    private AlertRule.Type type;
+    private String lapName;
+    private String key;
+    private Double value;
+    private double threshold;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'", timezone = "America/Sao_Paulo")
+    private ZonedDateTime added;
+}
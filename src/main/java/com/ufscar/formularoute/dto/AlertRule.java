@@ -0,0 +1,55 @@
+package com.ufscar.formularoute.dto;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.GenericGenerator;
+
+import java.util.UUID;
+
+/*
+Uma `AlertRule` descreve uma condição a ser verificada sobre um canal de telemetria (`key`) a cada frame recebido.
+As regras são salvas no banco de dados e carregadas pelo `AlertEngine` ao iniciar, onde ficam indexadas pelo canal,
+de modo que cada amostra só avalia as regras do seu próprio canal.
+
+Tipos de regra (`type`):
+- ABOVE: dispara quando o valor fica acima de `threshold` (ex.: temperatura da água).
+- BELOW: dispara quando o valor fica abaixo de `threshold` (ex.: pressão do óleo).
+- RATE_OF_CHANGE: dispara quando a variação absoluta por segundo entre duas amostras passa de `threshold`.
+- STALE: dispara quando o canal fica mais de `timeoutMs` sem receber amostras enquanto a volta continua recebendo
+  frames. Uma volta que parou por inteiro (ex.: o carro passou para a volta seguinte) não dispara STALE.
+
+Para ABOVE, BELOW e RATE_OF_CHANGE, `holdMs` exige que a condição se mantenha por esse tempo antes de disparar (0 dispara na hora).
+Uma amostra não numérica interrompe essa contagem.
+`debounceMs` é o intervalo mínimo entre dois alertas da mesma regra para a mesma volta.
+*/
+
+@Entity
+@Table(name = "alert_rule")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertRule {
+
+    public enum Type { ABOVE, BELOW, RATE_OF_CHANGE, STALE }
+
+    @Id
+    @GenericGenerator(name = "UUIDGenerator", strategy = "uuid2")
+    @GeneratedValue(generator = "UUIDGenerator")
+    @Column(name = "id")
+    private UUID id;
+
+    private String name;
+    private String key;
+
+    @Enumerated(EnumType.STRING)
+    private Type type;
+
+    private double threshold;
+    private long holdMs;
+    private long timeoutMs;
+    private long debounceMs = 1000;
+}
@@ -30,6 +30,8 @@ A estrutura de `Lap` é projetada para ser flexível e eficiente, permitindo a c
 
 - `added`: Um timestamp que indica quando a volta foi registrada no sistema, usando o fuso horário de "America/Sao_Paulo" com precisão de milissegundos. Isso permite organizar e analisar os dados de telemetria no contexto temporal correto.
 
+- `archived`: Indica se a volta foi movida para o armazenamento frio (arquivo compactado em disco, ver `LapArchiveService`). Nesse caso os parâmetros não estão mais no banco de dados e são lidos do arquivo.
+
 - `parameters`: Uma lista de objetos `Parameter`, que representam os diferentes parâmetros de telemetria associados a essa volta. Cada parâmetro contém informações sobre uma métrica específica, como velocidade ou temperatura, e está vinculado ao objeto `Lap`. Esse relacionamento OneToMany permite que uma volta armazene múltiplos parâmetros sem limitações, tornando a estrutura escalável para armazenar qualquer número de dados coletados durante a volta.
 
 ### Relacionamentos:
@@ -69,6 +71,9 @@ public class Lap {
     @Column(name = "added")
     private ZonedDateTime added = ZonedDateTime.now().withZoneSameInstant(ZoneId.of("America/Sao_Paulo"));
 
+    @Column(name = "archived", columnDefinition = "boolean default false")
+    private boolean archived = false;
+
     @OneToMany(targetEntity = Parameter.class, mappedBy = "lap", cascade = CascadeType.ALL, orphanRemoval = true, fetch = FetchType.LAZY)
     @JsonIgnore
     private List<Parameter> parameters = new ArrayList<>();
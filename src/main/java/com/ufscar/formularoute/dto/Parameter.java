@@ -43,7 +43,7 @@ Isso permite que o sistema exiba de forma dinâmica e eficiente os dados de tele
 */
 
 @Entity
-@Table(name="parameter")
+@Table(name="parameter", indexes = @Index(name = "parameter_lap_key_added_idx", columnList = "lap_id, key, added"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,43 @@
+package com.ufscar.formularoute.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+
+/*
+Consulta espacial sobre as voltas. A região pode ser informada de três formas (a primeira presente é usada):
+- `fromDistance`/`toDistance`: trecho em metros percorridos desde o início da volta;
+- `centerLat`/`centerLon`/`radius`: círculo com raio em metros;
+- `minLat`/`maxLat`/`minLon`/`maxLon`: retângulo.
+
+As voltas consultadas são as listadas em `laps` ou, se ausente, todas as registradas a partir de `since`
+(por padrão, o início do dia atual).
+*/
+
+@Getter
+@Setter
+public class TrackQueryRequest {
+    private String key;
+    private List<String> laps;
+
+    @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSSSS'Z'", timezone = "America/Sao_Paulo")
+    private ZonedDateTime since;
+
+    private Double minLat;
+    private Double maxLat;
+    private Double minLon;
+    private Double maxLon;
+
+    private Double centerLat;
+    private Double centerLon;
+    private Double radius;
+
+    private Double fromDistance;
+    private Double toDistance;
+
+    // Quando verdadeiro, a resposta traz apenas os agregados, sem a lista de valores
+    private boolean aggregateOnly;
+}
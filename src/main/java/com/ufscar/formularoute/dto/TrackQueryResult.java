@@ -0,0 +1,31 @@
+package com.ufscar.formularoute.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Resultado de uma consulta espacial para uma volta: os valores do canal consultado enquanto a volta esteve na região
+e os agregados (`min`, `max`, `avg`) calculados sobre os valores numéricos. `passes` é o número de vezes que a volta
+entrou na região. `error` só é preenchido quando a volta não pôde ser consultada (ex.: arquivo da volta arquivada
+ausente ou corrompido); nesse caso os demais campos ficam vazios.
+*/
+
+@Getter
+@Setter
+public class TrackQueryResult {
+    private String lapName;
+    private int passes;
+    private int count;
+    private Double min;
+    private Double max;
+    private Double avg;
+    private List<ParameterResponse> values = new ArrayList<>();
+    private String error;
+
+    public TrackQueryResult(String lapName) {
+        this.lapName = lapName;
+    }
+}
@@ -0,0 +1,11 @@
+package com.ufscar.formularoute.repository;
+
+import com.ufscar.formularoute.dto.AlertRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface AlertRuleRepository extends JpaRepository<AlertRule, UUID> {
+}
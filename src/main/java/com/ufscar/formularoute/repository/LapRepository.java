@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.ZonedDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,5 +13,8 @@ import java.util.UUID;
 public interface LapRepository extends JpaRepository<Lap, UUID> {
     @EntityGraph(value = "Lap.withParameters")
     Optional<Lap> findByName(String name);
-    List<Lap> findAllByAddedBefore(ZonedDateTime cutoffDate);
-}
\ No newline at end of file
+    List<Lap> findAllByAddedBeforeAndArchivedFalse(ZonedDateTime cutoffDate);
+    List<Lap> findAllByOrderByAddedDesc();
+    List<Lap> findAllByNameIn(Collection<String> names);
+    List<Lap> findAllByAddedAfter(ZonedDateTime since);
+}
@@ -1,11 +1,30 @@
 package com.ufscar.formularoute.repository;
 
+import com.ufscar.formularoute.dto.Lap;
 import com.ufscar.formularoute.dto.Parameter;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.ZonedDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 @Repository
 public interface ParameterRepository extends JpaRepository<Parameter, UUID> {
+    List<Parameter> findAllByLapOrderByAddedAsc(Lap lap);
 
-}
\ No newline at end of file
+    // `keys` deve estar em minúsculas; a comparação ignora maiúsculas no nome salvo
+    @Query("select p from Parameter p where p.lap = :lap and lower(p.key) in :keys order by p.added")
+    List<Parameter> findAllByLapAndLowerKeyInOrderByAddedAsc(@Param("lap") Lap lap, @Param("keys") Collection<String> keys);
+
+    List<Parameter> findAllByLapAndKeyAndAddedBetweenOrderByAddedAsc(Lap lap, String key, ZonedDateTime from, ZonedDateTime to);
+
+    long countByLap(Lap lap);
+
+    @Modifying
+    @Query("delete from Parameter p where p.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<UUID> ids);
+}
@@ -0,0 +1,251 @@
+package com.ufscar.formularoute.track;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+Índice espacial das posições GPS de uma volta.
+
+Guarda as posições em ordem cronológica (tempo em microssegundos, latitude, longitude e distância acumulada
+desde o início da volta) e uma grade uniforme de células de ~10 m que aponta para os índices das amostras em
+cada célula. Uma consulta por região só visita as células que a cobrem; uma consulta por distância é uma busca
+binária na distância acumulada.
+
+Latitude e longitude chegam como canais separados, no mesmo frame ou em frames distintos. Um frame com os dois
+eixos vira uma posição direto (`offerPosition`); um frame com só um eixo é casado com a última leitura pendente do
+outro eixo se as duas estiverem a no máximo `PAIRING_TOLERANCE_MICROS` uma da outra. Tanto a ingestão quanto a
+reconstrução a partir do banco ou do arquivo passam por essa mesma regra.
+
+O resultado das consultas são janelas de tempo [início, fim] em que o carro esteve na região, usadas depois
+para buscar os valores de qualquer outro canal da volta apenas nesses intervalos.
+*/
+
+public class LapTrackIndex {
+
+    // Latitude e longitude com timestamps a até esse intervalo uma da outra formam uma mesma posição
+    public static final long PAIRING_TOLERANCE_MICROS = 50_000;
+
+    private static final double CELL_DEGREES = 0.0001;
+    private static final int NONE = 0;
+    private static final int LATITUDE = 1;
+    private static final int LONGITUDE = 2;
+
+    private long[] micros = new long[256];
+    private double[] lat = new double[256];
+    private double[] lon = new double[256];
+    private double[] distance = new double[256];
+    private int size;
+    // Célula -> índices das amostras; a posição 0 de cada array guarda quantos índices estão em uso
+    private final Map<Long, int[]> cells = new HashMap<>();
+
+    // Última leitura de latitude ou longitude ainda sem par
+    private int pendingKind = NONE;
+    private long pendingTime;
+    private double pendingValue;
+
+    /**
+     * Recebe os dois eixos de um mesmo frame. Eles formam a posição entre si, e a leitura pendente de um frame
+     * anterior é descartada; se um dos eixos não for numérico, o outro é tratado como leitura isolada.
+     */
+    public synchronized void offerPosition(long timeMicros, double latitude, double longitude) {
+        if (Double.isNaN(latitude)) {
+            offer(timeMicros, longitude, LONGITUDE);
+        } else if (Double.isNaN(longitude)) {
+            offer(timeMicros, latitude, LATITUDE);
+        } else {
+            pendingKind = NONE;
+            if (isValid(latitude, longitude)) {
+                append(timeMicros, latitude, longitude);
+            }
+        }
+    }
+
+    public synchronized void offerLatitude(long timeMicros, double latitude) {
+        offer(timeMicros, latitude, LATITUDE);
+    }
+
+    public synchronized void offerLongitude(long timeMicros, double longitude) {
+        offer(timeMicros, longitude, LONGITUDE);
+    }
+
+    /**
+     * Casa a leitura com a pendente do outro eixo, se estiver dentro da tolerância; senão ela passa a ser a
+     * pendente. A posição usa o tempo da latitude.
+     */
+    private void offer(long timeMicros, double value, int kind) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (pendingKind != NONE && pendingKind != kind
+                && Math.abs(timeMicros - pendingTime) <= PAIRING_TOLERANCE_MICROS) {
+            double latitude = kind == LATITUDE ? value : pendingValue;
+            double longitude = kind == LONGITUDE ? value : pendingValue;
+            long time = kind == LATITUDE ? timeMicros : pendingTime;
+            pendingKind = NONE;
+            if (isValid(latitude, longitude)) {
+                append(time, latitude, longitude);
+            }
+            return;
+        }
+        pendingKind = kind;
+        pendingTime = timeMicros;
+        pendingValue = value;
+    }
+
+    /**
+     * Adiciona uma posição ao fim da volta. Posições fora de ordem cronológica são ignoradas.
+     */
+    public synchronized void append(long timeMicros, double latitude, double longitude) {
+        if (size > 0 && timeMicros <= micros[size - 1]) {
+            return;
+        }
+        if (size == micros.length) {
+            int capacity = size * 2;
+            micros = Arrays.copyOf(micros, capacity);
+            lat = Arrays.copyOf(lat, capacity);
+            lon = Arrays.copyOf(lon, capacity);
+            distance = Arrays.copyOf(distance, capacity);
+        }
+        micros[size] = timeMicros;
+        lat[size] = latitude;
+        lon[size] = longitude;
+        distance[size] = size == 0 ? 0
+                : distance[size - 1] + TrackRegion.distanceMeters(lat[size - 1], lon[size - 1], latitude, longitude);
+
+        long cell = cellKey(cellOf(latitude), cellOf(longitude));
+        int[] samples = cells.get(cell);
+        if (samples == null) {
+            samples = new int[4];
+            cells.put(cell, samples);
+        } else if (samples[0] == samples.length - 1) {
+            samples = Arrays.copyOf(samples, samples.length * 2);
+            cells.put(cell, samples);
+        }
+        samples[++samples[0]] = size;
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Janelas de tempo em que a volta esteve dentro da região, uma por passagem.
+     *
+     * @param paddingMicros Margem adicionada a cada lado da janela, para incluir canais registrados com
+     *                      timestamps ligeiramente diferentes dos da posição.
+     */
+    public synchronized List<long[]> windowsIn(TrackRegion region, long paddingMicros) {
+        int minRow = cellOf(region.minLat());
+        int maxRow = cellOf(region.maxLat());
+        int minCol = cellOf(region.minLon());
+        int maxCol = cellOf(region.maxLon());
+
+        Hits hits = new Hits();
+        long boxCells = (long) (maxRow - minRow + 1) * (maxCol - minCol + 1);
+        if (boxCells <= cells.size()) {
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int col = minCol; col <= maxCol; col++) {
+                    int[] samples = cells.get(cellKey(row, col));
+                    if (samples != null) {
+                        collect(samples, region, hits);
+                    }
+                }
+            }
+        } else {
+            // Região maior que a parte ocupada da grade: mais barato percorrer só as células ocupadas
+            for (Map.Entry<Long, int[]> entry : cells.entrySet()) {
+                int row = (int) (entry.getKey() >> 32);
+                int col = (int) (long) entry.getKey();
+                if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol) {
+                    collect(entry.getValue(), region, hits);
+                }
+            }
+        }
+
+        int count = hits.count;
+        int[] samples = hits.values;
+        Arrays.sort(samples, 0, count);
+        List<long[]> windows = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= count; i++) {
+            if (i == count || samples[i] != samples[i - 1] + 1) {
+                addWindow(windows, micros[samples[start]] - paddingMicros, micros[samples[i - 1]] + paddingMicros);
+                start = i;
+            }
+        }
+        return windows;
+    }
+
+    /**
+     * Janela de tempo em que a distância percorrida desde o início da volta esteve entre `fromMeters` e `toMeters`.
+     */
+    public synchronized List<long[]> windowsBetween(double fromMeters, double toMeters, long paddingMicros) {
+        List<long[]> windows = new ArrayList<>();
+        int first = lowerBound(fromMeters);
+        int last = lowerBound(Math.nextUp(toMeters)) - 1;
+        if (first <= last) {
+            windows.add(new long[]{micros[first] - paddingMicros, micros[last] + paddingMicros});
+        }
+        return windows;
+    }
+
+    private void collect(int[] samples, TrackRegion region, Hits hits) {
+        for (int i = 1; i <= samples[0]; i++) {
+            int sample = samples[i];
+            if (region.contains(lat[sample], lon[sample])) {
+                hits.add(sample);
+            }
+        }
+    }
+
+    private int lowerBound(double meters) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (distance[mid] < meters) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static void addWindow(List<long[]> windows, long from, long to) {
+        if (!windows.isEmpty() && windows.get(windows.size() - 1)[1] >= from) {
+            windows.get(windows.size() - 1)[1] = Math.max(windows.get(windows.size() - 1)[1], to);
+        } else {
+            windows.add(new long[]{from, to});
+        }
+    }
+
+    private static boolean isValid(double lat, double lon) {
+        // (0, 0) é o que a maioria dos módulos GPS envia antes de ter sinal
+        return lat >= -90 && lat <= 90 && lon >= -180 && lon <= 180 && !(lat == 0 && lon == 0);
+    }
+
+    private static int cellOf(double degrees) {
+        return (int) Math.floor(degrees / CELL_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static final class Hits {
+        private int[] values = new int[16];
+        private int count;
+
+        private void add(int value) {
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+            }
+            values[count++] = value;
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.ufscar.formularoute.track;
+
+import com.ufscar.formularoute.archive.LapArchiveReader;
+import com.ufscar.formularoute.archive.LapArchiveService;
+import com.ufscar.formularoute.dto.Lap;
+import com.ufscar.formularoute.dto.Parameter;
+import com.ufscar.formularoute.dto.ParameterResponse;
+import com.ufscar.formularoute.dto.TrackQueryResult;
+import com.ufscar.formularoute.repository.ParameterRepository;
+import com.ufscar.formularoute.util.TelemetryValues;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/*
+Mantém um `LapTrackIndex` por volta e responde às consultas espaciais.
+
+Os canais de posição são reconhecidos pelo nome, sem distinção de maiúsculas (ex.: `lat`/`latitude`/`gps_lat` e
+`lon`/`lng`/`longitude`/`gps_lon`), tanto na ingestão quanto no banco e no arquivo.
+Voltas criadas com o servidor no ar têm o índice montado durante a ingestão, frame a frame. As demais
+(voltas antigas, arquivadas ou anteriores a um reinício) têm o índice montado na primeira consulta, lendo
+apenas os canais de posição, e ficam em cache.
+
+Numa consulta, cada volta é processada em paralelo: o índice devolve as janelas de tempo em que a volta esteve
+na região e só as amostras do canal consultado dentro dessas janelas são lidas. Uma volta que não pode ser lida
+aparece no resultado com `error` preenchido, sem afetar as demais.
+*/
+
+@Service
+public class TrackIndexService {
+
+    private static final Set<String> LATITUDE_KEYS = Set.of("lat", "latitude", "gps_lat", "gps_latitude");
+    private static final Set<String> LONGITUDE_KEYS = Set.of("lon", "lng", "long", "longitude",
+            "gps_lon", "gps_lng", "gps_long", "gps_longitude");
+    private static final Set<String> POSITION_KEYS = union(LATITUDE_KEYS, LONGITUDE_KEYS);
+
+    private static final int CACHED_LAPS = 128;
+
+    @Autowired
+    private ParameterRepository parameterRepository;
+
+    @Autowired
+    private LapArchiveService lapArchiveService;
+
+    private final Map<String, LapTrackIndex> indexes = Collections.synchronizedMap(
+            new LinkedHashMap<String, LapTrackIndex>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LapTrackIndex> eldest) {
+                    return size() > CACHED_LAPS;
+                }
+            });
+
+    private final ExecutorService executor =
+            Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Começa um índice vazio para uma volta recém-criada, que passa a ser alimentado por `onFrame`.
+     */
+    public void startLap(String lapName) {
+        indexes.putIfAbsent(lapName, new LapTrackIndex());
+    }
+
+    /**
+     * Repassa a latitude e a longitude do frame ao índice da volta, se a volta estiver sendo indexada durante a
+     * ingestão. Os eixos do próprio frame são casados entre si antes de qualquer leitura pendente, então o
+     * resultado não depende da ordem das chaves no frame. Um frame com só um eixo é casado pela tolerância de
+     * tempo.
+     */
+    public void onFrame(String lapName, Map<String, String> parameters, ZonedDateTime added) {
+        LapTrackIndex index = indexes.get(lapName);
+        if (index == null) {
+            return;
+        }
+        double lat = Double.NaN;
+        double lon = Double.NaN;
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            String key = entry.getKey().toLowerCase(Locale.ROOT);
+            if (LATITUDE_KEYS.contains(key) && Double.isNaN(lat)) {
+                lat = TelemetryValues.parse(entry.getValue());
+            } else if (LONGITUDE_KEYS.contains(key) && Double.isNaN(lon)) {
+                lon = TelemetryValues.parse(entry.getValue());
+            }
+        }
+        if (!Double.isNaN(lat) || !Double.isNaN(lon)) {
+            index.offerPosition(TelemetryValues.toMicros(added), lat, lon);
+        }
+    }
+
+    public List<TrackQueryResult> queryRegion(List<Lap> laps, String key, TrackRegion region, boolean aggregateOnly) {
+        return query(laps, key, index -> index.windowsIn(region, LapTrackIndex.PAIRING_TOLERANCE_MICROS),
+                aggregateOnly);
+    }
+
+    public List<TrackQueryResult> queryDistance(List<Lap> laps, String key, double fromMeters, double toMeters,
+                                                boolean aggregateOnly) {
+        return query(laps, key, index -> index.windowsBetween(fromMeters, toMeters,
+                LapTrackIndex.PAIRING_TOLERANCE_MICROS), aggregateOnly);
+    }
+
+    private List<TrackQueryResult> query(List<Lap> laps, String key, Function<LapTrackIndex, List<long[]>> selector,
+                                         boolean aggregateOnly) {
+        List<CompletableFuture<TrackQueryResult>> futures = laps.stream()
+                .map(lap -> CompletableFuture.supplyAsync(() -> queryLap(lap, key, selector, aggregateOnly), executor))
+                .toList();
+
+        List<TrackQueryResult> results = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            TrackQueryResult result;
+            try {
+                result = futures.get(i).join();
+            } catch (CompletionException e) {
+                // Uma volta ilegível (ex.: arquivo `.frl` ausente ou corrompido) não derruba a consulta das demais
+                String lapName = laps.get(i).getName();
+                System.err.println("Falha ao consultar a lap " + lapName + ": " + e.getCause());
+                result = new TrackQueryResult(lapName);
+                result.setError("Could not read lap.");
+                results.add(result);
+                continue;
+            }
+            if (result.getPasses() > 0) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    private TrackQueryResult queryLap(Lap lap, String key, Function<LapTrackIndex, List<long[]>> selector,
+                                      boolean aggregateOnly) {
+        try {
+            TrackQueryResult result = new TrackQueryResult(lap.getName());
+            List<long[]> windows = selector.apply(index(lap));
+            result.setPasses(windows.size());
+            if (windows.isEmpty()) {
+                return result;
+            }
+
+            List<Parameter> values = lap.isArchived()
+                    ? inWindows(lapArchiveService.readParameters(lap, key), windows)
+                    : fromDatabase(lap, key, windows);
+
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            double sum = 0;
+            int numeric = 0;
+            for (Parameter parameter : values) {
+                double value = TelemetryValues.parse(parameter.getValue());
+                if (!Double.isNaN(value)) {
+                    min = Math.min(min, value);
+                    max = Math.max(max, value);
+                    sum += value;
+                    numeric++;
+                }
+                if (!aggregateOnly) {
+                    result.getValues().add(new ParameterResponse(parameter));
+                }
+            }
+            result.setCount(values.size());
+            if (numeric > 0) {
+                result.setMin(min);
+                result.setMax(max);
+                result.setAvg(sum / numeric);
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private LapTrackIndex index(Lap lap) throws IOException {
+        LapTrackIndex index = indexes.get(lap.getName());
+        if (index != null) {
+            return index;
+        }
+        index = build(lap);
+        LapTrackIndex existing = indexes.putIfAbsent(lap.getName(), index);
+        return existing != null ? existing : index;
+    }
+
+    private LapTrackIndex build(Lap lap) throws IOException {
+        List<Parameter> positions;
+        if (lap.isArchived()) {
+            positions = new ArrayList<>();
+            LapArchiveReader reader = lapArchiveService.open(lap);
+            for (String key : reader.keys()) {
+                if (POSITION_KEYS.contains(key.toLowerCase(Locale.ROOT))) {
+                    positions.addAll(reader.read(lap, key));
+                }
+            }
+        } else {
+            positions = parameterRepository.findAllByLapAndLowerKeyInOrderByAddedAsc(lap, POSITION_KEYS);
+        }
+
+        List<Parameter> latitudes = new ArrayList<>();
+        List<Parameter> longitudes = new ArrayList<>();
+        for (Parameter parameter : positions) {
+            String key = parameter.getKey().toLowerCase(Locale.ROOT);
+            (LATITUDE_KEYS.contains(key) ? latitudes : longitudes).add(parameter);
+        }
+        latitudes.sort(Comparator.comparing(Parameter::getAdded));
+        longitudes.sort(Comparator.comparing(Parameter::getAdded));
+
+        // Intercala os dois eixos em ordem de tempo; leituras com o mesmo instante vieram do mesmo frame e são
+        // casadas entre si, como na ingestão
+        LapTrackIndex index = new LapTrackIndex();
+        int i = 0;
+        int j = 0;
+        while (i < latitudes.size() || j < longitudes.size()) {
+            long latTime = i < latitudes.size()
+                    ? TelemetryValues.toMicros(latitudes.get(i).getAdded()) : Long.MAX_VALUE;
+            long lonTime = j < longitudes.size()
+                    ? TelemetryValues.toMicros(longitudes.get(j).getAdded()) : Long.MAX_VALUE;
+            if (latTime == lonTime) {
+                index.offerPosition(latTime, TelemetryValues.parse(latitudes.get(i++).getValue()),
+                        TelemetryValues.parse(longitudes.get(j++).getValue()));
+            } else if (latTime < lonTime) {
+                index.offerLatitude(latTime, TelemetryValues.parse(latitudes.get(i++).getValue()));
+            } else {
+                index.offerLongitude(lonTime, TelemetryValues.parse(longitudes.get(j++).getValue()));
+            }
+        }
+        return index;
+    }
+
+    private List<Parameter> fromDatabase(Lap lap, String key, List<long[]> windows) {
+        List<Parameter> values = new ArrayList<>();
+        for (long[] window : windows) {
+            values.addAll(parameterRepository.findAllByLapAndKeyAndAddedBetweenOrderByAddedAsc(
+                    lap, key, TelemetryValues.toTime(window[0]), TelemetryValues.toTime(window[1])));
+        }
+        return values;
+    }
+
+    private static List<Parameter> inWindows(List<Parameter> channel, List<long[]> windows) {
+        List<Parameter> values = new ArrayList<>();
+        int w = 0;
+        for (Parameter parameter : channel) {
+            long time = TelemetryValues.toMicros(parameter.getAdded());
+            while (w < windows.size() && windows.get(w)[1] < time) {
+                w++;
+            }
+            if (w == windows.size()) {
+                break;
+            }
+            if (time >= windows.get(w)[0]) {
+                values.add(parameter);
+            }
+        }
+        return values;
+    }
+
+    @SafeVarargs
+    private static Set<String> union(Set<String>... keySets) {
+        Set<String> keys = new HashSet<>();
+        for (Set<String> set : keySets) {
+            keys.addAll(set);
+        }
+        return Set.copyOf(keys);
+    }
+}
@@ -0,0 +1,43 @@
+package com.ufscar.formularoute.track;
+
+/*
+Região da pista usada nas consultas espaciais: um retângulo em latitude/longitude e, opcionalmente,
+um círculo (centro + raio em metros) contido nele. O retângulo é o que o `LapTrackIndex` usa para escolher
+as células da grade; o círculo é testado amostra a amostra.
+*/
+
+public record TrackRegion(double minLat, double maxLat, double minLon, double maxLon,
+                          double centerLat, double centerLon, double radiusMeters) {
+
+    private static final double METERS_PER_DEGREE = 111_320.0;
+
+    public static TrackRegion box(double minLat, double maxLat, double minLon, double maxLon) {
+        return new TrackRegion(Math.min(minLat, maxLat), Math.max(minLat, maxLat),
+                Math.min(minLon, maxLon), Math.max(minLon, maxLon), Double.NaN, Double.NaN, Double.NaN);
+    }
+
+    public static TrackRegion circle(double centerLat, double centerLon, double radiusMeters) {
+        double dLat = radiusMeters / METERS_PER_DEGREE;
+        double dLon = radiusMeters / (METERS_PER_DEGREE * Math.max(Math.cos(Math.toRadians(centerLat)), 1e-6));
+        return new TrackRegion(centerLat - dLat, centerLat + dLat, centerLon - dLon, centerLon + dLon,
+                centerLat, centerLon, radiusMeters);
+    }
+
+    public boolean contains(double lat, double lon) {
+        if (lat < minLat || lat > maxLat || lon < minLon || lon > maxLon) {
+            return false;
+        }
+        return Double.isNaN(radiusMeters) || distanceMeters(centerLat, centerLon, lat, lon) <= radiusMeters;
+    }
+
+    /**
+     * Distância em metros entre dois pontos pela fórmula de haversine.
+     */
+    public static double distanceMeters(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * 6_371_000.0 * Math.asin(Math.min(1.0, Math.sqrt(a)));
+    }
+}
@@ -0,0 +1,42 @@
+package com.ufscar.formularoute.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/*
+Conversões usadas por quem trabalha com os valores de `Parameter` fora do banco (alertas, arquivos e índice de pista):
+os valores chegam como texto e os tempos são guardados como microssegundos desde a epoch, a mesma precisão da
+coluna `added`.
+*/
+
+public final class TelemetryValues {
+
+    public static final ZoneId ZONE = ZoneId.of("America/Sao_Paulo");
+
+    private TelemetryValues() {
+    }
+
+    /**
+     * Converte o valor de um parâmetro para número, ou NaN se ele for nulo ou não numérico.
+     */
+    public static double parse(String value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    public static long toMicros(ZonedDateTime time) {
+        return Math.addExact(Math.multiplyExact(time.toEpochSecond(), 1_000_000L), time.getNano() / 1_000);
+    }
+
+    public static ZonedDateTime toTime(long micros) {
+        return ZonedDateTime.ofInstant(Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                Math.floorMod(micros, 1_000_000L) * 1_000L), ZONE);
+    }
+}
@@ -1,11 +1,14 @@
 package com.ufscar.formularoute.websocket;
 
+import com.ufscar.formularoute.alerts.AlertEngine;
 import com.ufscar.formularoute.dto.Lap;
 import com.ufscar.formularoute.dto.Parameter;
 import com.ufscar.formularoute.repository.LapRepository;
+import com.ufscar.formularoute.track.TrackIndexService;
 import com.ufscar.formularoute.websocket.objects.WebSocketTelemetryRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -21,18 +24,33 @@ public class TelemetryWebSocketController {
     @Autowired
     private LapRepository lapRepository;
 
+    @Autowired
+    private AlertEngine alertEngine;
+
+    @Autowired
+    private TrackIndexService trackIndexService;
+
     /**
      * Endpoint WebSocket para receber e registrar parâmetros de telemetria.
      * Escuta no destino "/app/sendTelemetry".
      *
+     * <p>
+     * Frames rejeitados não são salvos e o motivo é enviado apenas à sessão que os enviou, no destino
+     * `/user/responses/errors`:
+     * - "Missing lapName or parameters.": se algum dos campos estiver ausente.
+     * - "Lap is archived.": se a volta já foi movida para o armazenamento frio. Voltas arquivadas não voltam a
+     * receber dados; uma nova sessão deve usar um nome de volta ainda não usado.
+     *
      * @param request O objeto contendo o nome da volta e um mapa de parâmetros.
+     * @return A mensagem de erro enviada ao remetente, ou null se o frame foi registrado.
      */
     @MessageMapping("/register")
+    @SendToUser(destinations = "/responses/errors", broadcast = false)
     @Transactional
-    public void handleGenericTelemetry(WebSocketTelemetryRequest request) {
+    public String handleGenericTelemetry(WebSocketTelemetryRequest request) {
         if (request.getLapName() == null || request.getParameters() == null) {
             System.err.println("Requisição WebSocket inválida: lapName ou parâmetros nulos.");
-            return;
+            return "Missing lapName or parameters.";
         }
 
         Lap lap = lapRepository.findByName(request.getLapName())
@@ -43,13 +61,27 @@ public class TelemetryWebSocketController {
                     return newLap;
                 });
 
+        if (lap.isArchived()) {
+            System.err.println("Lap arquivada não aceita novos parâmetros: " + lap.getName());
+            return "Lap is archived.";
+        }
+
+        // Um único instante para todo o frame, usado tanto nos alertas quanto nos parâmetros salvos
+        ZonedDateTime added = ZonedDateTime.now(ZoneId.of("America/Sao_Paulo"));
+        alertEngine.evaluate(request.getLapName(), request.getParameters(), added.toInstant().toEpochMilli());
+
+        if (lap.getId() == null) {
+            trackIndexService.startLap(lap.getName());
+        }
+        trackIndexService.onFrame(lap.getName(), request.getParameters(), added);
+
         List<Parameter> newParameters = request.getParameters().entrySet().stream()
                 .map(entry -> {
                     System.out.println("  - Recebido: " + entry.getKey() + " = " + entry.getValue());
                     Parameter parameter = new Parameter();
                     parameter.setKey(entry.getKey());
                     parameter.setValue(entry.getValue());
-                    parameter.setAdded(ZonedDateTime.now(ZoneId.of("America/Sao_Paulo")));
+                    parameter.setAdded(added);
                     parameter.setLap(lap);
                     return parameter;
                 })
@@ -59,5 +91,6 @@ public class TelemetryWebSocketController {
         lapRepository.save(lap);
 
         System.out.println("Parâmetros registrados com sucesso para a Lap: " + lap.getName());
+        return null;
     }
 }
\ No newline at end of file
@@ -13,4 +13,19 @@ added TIMESTAMP WITHOUT TIME ZONE DEFAULT(now() AT TIME ZONE 'America/Sao_Paulo'
 
 ALTER TABLE parameters ADD COLUMN lap_id UUID;
 ALTER TABLE parameters ADD CONSTRAINT lap_fk FOREIGN KEY (lap_id)
-REFERENCES lap (id);
\ No newline at end of file
+REFERENCES lap (id);
+
+ALTER TABLE lap ADD COLUMN archived BOOLEAN DEFAULT FALSE;
+
+CREATE INDEX parameter_lap_key_added_idx ON parameters (lap_id, key, added);
+
+CREATE TABLE alert_rule(
+id uuid unique primary key,
+name varchar(255) null,
+key varchar(255) null,
+type varchar(30) null,
+threshold double precision,
+hold_ms bigint,
+timeout_ms bigint,
+debounce_ms bigint
+);
@@ -0,0 +1,182 @@
+package com.ufscar.formularoute.alerts;
+
+import com.ufscar.formularoute.dto.AlertEvent;
+import com.ufscar.formularoute.dto.AlertRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AlertRuleEvaluatorTest {
+
+    private static final String LAP = "Volta 1";
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final AlertRuleEvaluator evaluator = new AlertRuleEvaluator();
+
+    @Test
+    void aboveFiresOnceAndRespectsDebounce() {
+        AlertRule rule = rule("water_temp", AlertRule.Type.ABOVE, 105, 0, 0, 1000);
+        evaluator.setRules(List.of(rule));
+
+        assertTrue(frame("water_temp", "100", T0).isEmpty());
+        List<AlertEvent> events = frame("water_temp", "110", T0 + 100);
+        assertEquals(1, events.size());
+        assertEquals(rule.getId(), events.get(0).getRuleId());
+        assertEquals(LAP, events.get(0).getLapName());
+        assertEquals(110.0, events.get(0).getValue(), 0);
+
+        assertTrue(frame("water_temp", "111", T0 + 500).isEmpty());
+        assertEquals(1, frame("water_temp", "112", T0 + 1100).size());
+    }
+
+    @Test
+    void belowWaitsForHoldAndResetsWhenConditionBreaks() {
+        evaluator.setRules(List.of(rule("oil_pressure", AlertRule.Type.BELOW, 1.5, 300, 0, 0)));
+
+        assertTrue(frame("oil_pressure", "1.0", T0).isEmpty());
+        assertTrue(frame("oil_pressure", "1.0", T0 + 200).isEmpty());
+        assertTrue(frame("oil_pressure", "2.0", T0 + 250).isEmpty());
+        assertTrue(frame("oil_pressure", "1.0", T0 + 300).isEmpty());
+        assertTrue(frame("oil_pressure", "1.0", T0 + 500).isEmpty());
+        assertEquals(1, frame("oil_pressure", "1.0", T0 + 600).size());
+    }
+
+    @Test
+    void nonNumericSampleResetsHold() {
+        evaluator.setRules(List.of(rule("oil_pressure", AlertRule.Type.BELOW, 1.5, 300, 0, 0)));
+
+        assertTrue(frame("oil_pressure", "1.0", T0).isEmpty());
+        assertTrue(frame("oil_pressure", "NaN", T0 + 100).isEmpty());
+        assertTrue(frame("oil_pressure", "1.0", T0 + 200).isEmpty());
+        assertTrue(frame("oil_pressure", "1.0", T0 + 400).isEmpty());
+        assertEquals(1, frame("oil_pressure", "1.0", T0 + 500).size());
+    }
+
+    @Test
+    void rateOfChangeUsesTimeBetweenSamplesAndSkipsNonNumeric() {
+        evaluator.setRules(List.of(rule("brake_temp", AlertRule.Type.RATE_OF_CHANGE, 100, 0, 0, 0)));
+
+        assertTrue(frame("brake_temp", "300", T0).isEmpty());
+        // Outro canal no meio não altera a última amostra de brake_temp
+        assertTrue(frame("speed", "200", T0 + 100).isEmpty());
+        // 50 em 1 s: abaixo do limite
+        assertTrue(frame("brake_temp", "350", T0 + 1000).isEmpty());
+        // 80 em 0,5 s = 160/s
+        List<AlertEvent> events = frame("brake_temp", "430", T0 + 1500);
+        assertEquals(1, events.size());
+        assertEquals(160.0, events.get(0).getValue(), 1e-9);
+
+        // Sem valor anterior numérico não há taxa
+        assertTrue(frame("brake_temp", "x", T0 + 1600).isEmpty());
+        assertTrue(frame("brake_temp", "900", T0 + 1700).isEmpty());
+        assertEquals(1, frame("brake_temp", "1000", T0 + 1800).size());
+    }
+
+    @Test
+    void staleFiresWhileLapKeepsStreamingAndRecovers() {
+        evaluator.setRules(List.of(rule("water_temp", AlertRule.Type.STALE, 0, 0, 2000, 0)));
+
+        frame("water_temp", "90", T0);
+        for (long t = T0 + 250; t <= T0 + 2000; t += 250) {
+            frame("speed", "200", t);
+            assertTrue(evaluator.checkStale(t).isEmpty());
+        }
+        frame("speed", "200", T0 + 2250);
+        List<AlertEvent> events = evaluator.checkStale(T0 + 2250);
+        assertEquals(1, events.size());
+        assertEquals(90.0, events.get(0).getValue(), 0);
+        assertTrue(evaluator.checkStale(T0 + 2500).isEmpty());
+
+        frame("water_temp", "91", T0 + 3000);
+        frame("speed", "200", T0 + 5100);
+        assertEquals(1, evaluator.checkStale(T0 + 5100).size());
+    }
+
+    @Test
+    void staleDoesNotFireForLapThatStoppedStreaming() {
+        evaluator.setRules(List.of(rule("water_temp", AlertRule.Type.STALE, 0, 0, 2000, 0)));
+
+        frame("water_temp", "90", T0);
+        frame("speed", "200", T0 + 100);
+        assertTrue(evaluator.checkStale(T0 + 2500).isEmpty());
+        assertTrue(evaluator.checkStale(T0 + 10_000).isEmpty());
+    }
+
+    @Test
+    void endedLapIsDroppedOnceANewerLapIsActive() {
+        evaluator.setRules(List.of(rule("water_temp", AlertRule.Type.STALE, 0, 0, 2000, 0)));
+
+        frame("water_temp", "90", T0);
+        long next = T0 + 1000;
+        evaluator.evaluate("Volta 2", Map.of("water_temp", "90"), next);
+        long later = T0 + AlertRuleEvaluator.LAP_ENDED_MS + 1;
+        evaluator.evaluate("Volta 2", Map.of("water_temp", "90"), later);
+
+        assertTrue(evaluator.checkStale(later).isEmpty());
+        assertFalse(evaluator.hasLap(LAP));
+        assertTrue(evaluator.hasLap("Volta 2"));
+    }
+
+    @Test
+    void staleRuleAddedMidSessionStartsCountingFromNow() {
+        AlertRule speed = rule("speed", AlertRule.Type.ABOVE, 400, 0, 0, 0);
+        evaluator.setRules(List.of(speed));
+        for (long t = T0; t <= T0 + 60_000; t += 1000) {
+            frame("speed", "200", t);
+        }
+
+        long now = T0 + 60_000;
+        evaluator.setRules(List.of(speed, rule("water_temp", AlertRule.Type.STALE, 0, 0, 2000, 0)));
+        assertTrue(evaluator.checkStale(now).isEmpty());
+        frame("speed", "200", now + 1000);
+        assertTrue(evaluator.checkStale(now + 1000).isEmpty());
+        frame("speed", "200", now + 2100);
+        assertEquals(1, evaluator.checkStale(now + 2100).size());
+    }
+
+    @Test
+    void ruleStateSurvivesIndexRebuild() {
+        AlertRule oil = rule("oil_pressure", AlertRule.Type.BELOW, 1.5, 500, 0, 0);
+        AlertRule water = rule("water_temp", AlertRule.Type.ABOVE, 105, 0, 0, 0);
+        evaluator.setRules(List.of(water, oil));
+
+        assertTrue(frame("oil_pressure", "1.0", T0).isEmpty());
+        // Remover uma regra e adicionar outra muda o slot de `oil`, mas o hold continua contando
+        evaluator.setRules(List.of(oil, rule("rpm", AlertRule.Type.ABOVE, 13_000, 0, 0, 0)));
+        assertTrue(frame("oil_pressure", "1.0", T0 + 300).isEmpty());
+        List<AlertEvent> events = frame("oil_pressure", "1.0", T0 + 500);
+        assertEquals(1, events.size());
+        assertEquals(oil.getId(), events.get(0).getRuleId());
+
+        assertTrue(frame("water_temp", "120", T0 + 600).isEmpty());
+        assertEquals(2, evaluator.getRules().size());
+    }
+
+    @Test
+    void removedRuleStateIsNotReusedWhenAddedAgain() {
+        AlertRule oil = rule("oil_pressure", AlertRule.Type.BELOW, 1.5, 500, 0, 0);
+        evaluator.setRules(List.of(oil));
+        assertTrue(frame("oil_pressure", "1.0", T0).isEmpty());
+
+        evaluator.setRules(List.of());
+        assertTrue(frame("oil_pressure", "1.0", T0 + 100).isEmpty());
+        AlertRule again = rule("oil_pressure", AlertRule.Type.BELOW, 1.5, 500, 0, 0);
+        evaluator.setRules(List.of(again));
+
+        assertTrue(frame("oil_pressure", "1.0", T0 + 600).isEmpty());
+        assertEquals(1, frame("oil_pressure", "1.0", T0 + 1100).size());
+    }
+
+    private List<AlertEvent> frame(String key, String value, long timestamp) {
+        return evaluator.evaluate(LAP, Map.of(key, value), timestamp);
+    }
+
+    private static AlertRule rule(String key, AlertRule.Type type, double threshold, long holdMs, long timeoutMs,
+                                  long debounceMs) {
+        return new AlertRule(UUID.randomUUID(), key + " " + type, key, type, threshold, holdMs, timeoutMs, debounceMs);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ufscar.formularoute.archive;
+
+import com.ufscar.formularoute.dto.Lap;
+import com.ufscar.formularoute.dto.Parameter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LapArchiveTest {
+
+    private static final ZonedDateTime START = ZonedDateTime.of(2025, 3, 9, 14, 30, 0, 123_456_789,
+            ZoneId.of("America/Sao_Paulo"));
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripKeepsValuesAndMicrosecondTimestamps() throws IOException {
+        Lap lap = lap("Volta 1");
+        List<Parameter> parameters = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            parameters.add(parameter(lap, "speed", String.valueOf(i % 200), START.plusNanos(i * 10_000_123L)));
+            parameters.add(parameter(lap, "oil", i % 7 == 0 ? null : "3." + i, START.plusNanos(i * 10_000_123L + 5_000)));
+        }
+
+        Path file = dir.resolve("lap.frl");
+        LapArchiveWriter.write(file, lap, parameters);
+        LapArchiveReader reader = LapArchiveReader.open(file);
+
+        assertEquals("Volta 1", reader.getLapName());
+        assertEquals(micros(lap.getAdded()), micros(reader.getLapAdded()));
+        assertEquals(List.of("speed", "oil"), new ArrayList<>(reader.keys()));
+        assertEquals(parameters.size(), reader.count());
+
+        List<Parameter> all = reader.readAll(lap);
+        assertEquals(parameters.size(), all.size());
+        for (int i = 0; i < parameters.size(); i++) {
+            assertEquals(parameters.get(i).getKey(), all.get(i).getKey());
+            assertEquals(parameters.get(i).getValue(), all.get(i).getValue());
+            assertEquals(micros(parameters.get(i).getAdded()), micros(all.get(i).getAdded()));
+        }
+
+        List<Parameter> oil = reader.read(lap, "oil");
+        assertEquals(1000, oil.size());
+        assertNull(oil.get(0).getValue());
+        assertEquals("3.1", oil.get(1).getValue());
+        assertTrue(reader.read(lap, "rpm").isEmpty());
+    }
+
+    @Test
+    void nullAddedFallsBackToLapAdded() throws IOException {
+        Lap lap = lap("Volta 2");
+        Path file = dir.resolve("lap.frl");
+        LapArchiveWriter.write(file, lap, List.of(parameter(lap, "rpm", "6500", null)));
+
+        List<Parameter> rpm = LapArchiveReader.open(file).read(lap, "rpm");
+        assertEquals(1, rpm.size());
+        assertEquals("6500", rpm.get(0).getValue());
+        assertEquals(micros(lap.getAdded()), micros(rpm.get(0).getAdded()));
+    }
+
+    @Test
+    void emptyLapProducesReadableFile() throws IOException {
+        Lap lap = lap("Volta vazia");
+        Path file = dir.resolve("lap.frl");
+        LapArchiveWriter.write(file, lap, List.of());
+
+        LapArchiveReader reader = LapArchiveReader.open(file);
+        assertEquals("Volta vazia", reader.getLapName());
+        assertEquals(0, reader.count());
+        assertTrue(reader.keys().isEmpty());
+        assertTrue(reader.readAll(lap).isEmpty());
+    }
+
+    @Test
+    void unknownVersionIsRejected() throws IOException {
+        Lap lap = lap("Volta 3");
+        Path file = dir.resolve("lap.frl");
+        LapArchiveWriter.write(file, lap, List.of(parameter(lap, "rpm", "6500", START)));
+
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.seek(Integer.BYTES);
+            raw.writeShort(LapArchiveWriter.VERSION + 1);
+        }
+
+        assertThrows(IOException.class, () -> LapArchiveReader.open(file));
+    }
+
+    private static Lap lap(String name) {
+        Lap lap = new Lap();
+        lap.setName(name);
+        lap.setAdded(START);
+        return lap;
+    }
+
+    private static Parameter parameter(Lap lap, String key, String value, ZonedDateTime added) {
+        Parameter parameter = new Parameter();
+        parameter.setKey(key);
+        parameter.setValue(value);
+        parameter.setAdded(added);
+        parameter.setLap(lap);
+        return parameter;
+    }
+
+    private static long micros(ZonedDateTime time) {
+        return ChronoUnit.MICROS.between(START.toInstant().truncatedTo(ChronoUnit.DAYS), time.toInstant());
+    }
+}
@@ -0,0 +1,166 @@
+package com.ufscar.formularoute.track;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LapTrackIndexTest {
+
+    private static final double START_LAT = -22.0;
+    private static final double LON = -47.9;
+    // ~1,1 m entre amostras consecutivas
+    private static final double STEP = 0.00001;
+
+    @Test
+    void regionLookupReturnsOnlySamplesInside() {
+        LapTrackIndex index = straight(100);
+
+        List<long[]> windows = index.windowsIn(box(20, 40), 0);
+        assertEquals(1, windows.size());
+        assertArrayEquals(new long[]{time(20), time(40)}, windows.get(0));
+
+        assertTrue(index.windowsIn(TrackRegion.box(-21.0, -20.0, LON - 0.001, LON + 0.001), 0).isEmpty());
+    }
+
+    @Test
+    void regionLargerThanOccupiedGridScansOccupiedCells() {
+        LapTrackIndex index = straight(100);
+
+        List<long[]> windows = index.windowsIn(TrackRegion.box(-23.0, -21.0, -49.0, -47.0), 0);
+        assertEquals(1, windows.size());
+        assertArrayEquals(new long[]{time(0), time(99)}, windows.get(0));
+    }
+
+    @Test
+    void eachPassBecomesAWindowAndOverlappingPaddingMerges() {
+        // Vai para o norte nas amostras 0..49 e volta pelo mesmo caminho nas amostras 50..99
+        LapTrackIndex index = new LapTrackIndex();
+        for (int i = 0; i < 100; i++) {
+            index.append(time(i), lat(i < 50 ? i : 99 - i), LON);
+        }
+
+        List<long[]> windows = index.windowsIn(box(10, 20), 50_000);
+        assertEquals(2, windows.size());
+        assertArrayEquals(new long[]{time(10) - 50_000, time(20) + 50_000}, windows.get(0));
+        assertArrayEquals(new long[]{time(79) - 50_000, time(89) + 50_000}, windows.get(1));
+
+        long padding = 3_000_000;
+        windows = index.windowsIn(box(10, 20), padding);
+        assertEquals(1, windows.size());
+        assertArrayEquals(new long[]{time(10) - padding, time(89) + padding}, windows.get(0));
+    }
+
+    @Test
+    void windowsBetweenIncludesBothEdges() {
+        LapTrackIndex index = straight(100);
+        double[] distance = distances(100);
+
+        List<long[]> windows = index.windowsBetween(distance[10], distance[20], 0);
+        assertEquals(1, windows.size());
+        assertArrayEquals(new long[]{time(10), time(20)}, windows.get(0));
+
+        windows = index.windowsBetween(-5, 1e9, 0);
+        assertArrayEquals(new long[]{time(0), time(99)}, windows.get(0));
+    }
+
+    @Test
+    void windowsBetweenWithoutSamplesIsEmpty() {
+        LapTrackIndex index = straight(100);
+        double[] distance = distances(100);
+
+        assertTrue(index.windowsBetween(distance[20], distance[10], 0).isEmpty());
+        assertTrue(index.windowsBetween(distance[10] + 0.1, distance[10] + 0.2, 0).isEmpty());
+        assertTrue(index.windowsBetween(distance[99] + 1, distance[99] + 100, 0).isEmpty());
+        assertTrue(new LapTrackIndex().windowsBetween(0, 100, 0).isEmpty());
+    }
+
+    @Test
+    void latitudeAndLongitudeFromSeparateFramesArePairedWithinTolerance() {
+        LapTrackIndex index = new LapTrackIndex();
+
+        index.offerLatitude(time(0), lat(0));
+        index.offerLongitude(time(0) + LapTrackIndex.PAIRING_TOLERANCE_MICROS, LON);
+        assertEquals(1, index.size());
+
+        index.offerLongitude(time(1), LON);
+        index.offerLatitude(time(1) + LapTrackIndex.PAIRING_TOLERANCE_MICROS + 1, lat(1));
+        assertEquals(1, index.size());
+
+        // A latitude pendente é substituída pela mais recente e a posição usa o tempo da latitude
+        index.offerLatitude(time(3), lat(3));
+        index.offerLatitude(time(4), lat(4));
+        index.offerLongitude(time(4) - 10_000, LON);
+        assertEquals(2, index.size());
+        assertArrayEquals(new long[]{time(4), time(4)}, index.windowsIn(box(2, 5), 0).get(0));
+    }
+
+    @Test
+    void frameWithBothAxesIsPairedBeforeAnyPendingReading() {
+        LapTrackIndex index = new LapTrackIndex();
+
+        // Latitude isolada seguida de um frame completo 20 ms depois: o frame usa a própria latitude
+        index.offerLatitude(time(0), lat(0));
+        index.offerPosition(time(0) + 20_000, lat(5), LON);
+        assertEquals(1, index.size());
+        assertTrue(index.windowsIn(box(0, 0), 0).isEmpty());
+        assertArrayEquals(new long[]{time(0) + 20_000, time(0) + 20_000}, index.windowsIn(box(5, 5), 0).get(0));
+
+        // A leitura pendente foi descartada e não casa com a longitude seguinte
+        index.offerLongitude(time(0) + 30_000, LON);
+        assertEquals(1, index.size());
+
+        // Um eixo não numérico faz o frame valer como leitura isolada do outro eixo
+        index.offerPosition(time(1), Double.NaN, LON);
+        index.offerLatitude(time(1) + 10_000, lat(8));
+        assertEquals(2, index.size());
+        assertArrayEquals(new long[]{time(1) + 10_000, time(1) + 10_000}, index.windowsIn(box(8, 8), 0).get(0));
+    }
+
+    @Test
+    void invalidPositionsAreDiscarded() {
+        LapTrackIndex index = new LapTrackIndex();
+
+        index.offerLatitude(time(0), 0);
+        index.offerLongitude(time(0), 0);
+        index.offerLatitude(time(1), Double.NaN);
+        index.offerLongitude(time(1), LON);
+        index.offerLatitude(time(2), 95);
+        index.offerLongitude(time(2), LON);
+        assertEquals(0, index.size());
+
+        index.append(time(5), lat(5), LON);
+        index.append(time(4), lat(4), LON);
+        assertEquals(1, index.size());
+    }
+
+    private static LapTrackIndex straight(int samples) {
+        LapTrackIndex index = new LapTrackIndex();
+        for (int i = 0; i < samples; i++) {
+            index.append(time(i), lat(i), LON);
+        }
+        return index;
+    }
+
+    private static double[] distances(int samples) {
+        double[] distance = new double[samples];
+        for (int i = 1; i < samples; i++) {
+            distance[i] = distance[i - 1] + TrackRegion.distanceMeters(lat(i - 1), LON, lat(i), LON);
+        }
+        return distance;
+    }
+
+    // Retângulo que cobre as amostras `from`..`to` de uma reta para o norte
+    private static TrackRegion box(int from, int to) {
+        return TrackRegion.box(lat(from) - STEP / 2, lat(to) + STEP / 2, LON - 0.0001, LON + 0.0001);
+    }
+
+    private static double lat(int sample) {
+        return START_LAT + sample * STEP;
+    }
+
+    private static long time(int sample) {
+        return 1_000_000L + sample * 100_000L;
+    }
+}